@@ -0,0 +1,136 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Cohort level statistics across many users. Each user's history is reduced once, at ingest, to a
+ * small mergeable summary per calendar month. Cohort queries then combine those summaries, so their
+ * cost grows with the number of users and months rather than the number of raw readings.
+ */
+public class CohortStats {
+
+  /**
+   * Weight summary of one month of readings: exact count, sum, min and max, plus a quantile sketch
+   * of the readings themselves. The sum is kept in tenths of a pound so that combining summaries in
+   * any order gives the same result.
+   */
+  public static class MonthlySummary {
+    YearMonth month;
+    long count;
+    long weightTenthsSum;
+    double min = Double.MAX_VALUE;
+    double max = -Double.MAX_VALUE;
+    KllSketch weights = new KllSketch();
+
+    public MonthlySummary(YearMonth month) {
+      this.month = month;
+    }
+
+    void add(BodyData bodyData) {
+      double weight = bodyData.getWeight();
+      count++;
+      weightTenthsSum += Math.round(weight * 10);
+      min = Math.min(min, weight);
+      max = Math.max(max, weight);
+      weights.update(weight);
+    }
+
+    double average() {
+      return count == 0 ? Double.NaN : weightTenthsSum / (10.0 * count);
+    }
+
+    /**
+     * Returns a new summary covering both summaries. Neither input is modified. The month is only
+     * kept if both summaries share it.
+     */
+    static MonthlySummary combine(MonthlySummary first, MonthlySummary second) {
+      MonthlySummary combined =
+          new MonthlySummary(Objects.equals(first.month, second.month) ? first.month : null);
+      combined.count = first.count + second.count;
+      combined.weightTenthsSum = first.weightTenthsSum + second.weightTenthsSum;
+      combined.min = Math.min(first.min, second.min);
+      combined.max = Math.max(first.max, second.max);
+      combined.weights = first.weights.copy();
+      combined.weights.merge(second.weights);
+      return combined;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "{Count: %d, Min: %.2f, Max: %.2f, Avg: %.2f}", count, min, max, average());
+    }
+  }
+
+  /** Reduces one user's history to a summary per calendar month, ordered by month. */
+  static TreeMap<YearMonth, MonthlySummary> summarizeByMonth(List<BodyData> data) {
+    TreeMap<YearMonth, MonthlySummary> summaries = new TreeMap<>();
+    for (BodyData bodyData : data) {
+      LocalDate date = bodyData.getDate();
+      summaries.computeIfAbsent(YearMonth.from(date), MonthlySummary::new).add(bodyData);
+    }
+    return summaries;
+  }
+
+  /**
+   * Combines summaries, in parallel, into one covering all of their readings. Empty if there are no
+   * summaries.
+   */
+  static Optional<MonthlySummary> combine(Collection<MonthlySummary> summaries) {
+    return summaries.parallelStream().reduce(MonthlySummary::combine);
+  }
+
+  /** Combines every user's summary for the month into a cohort summary of all their readings. */
+  static Optional<MonthlySummary> cohortMonth(
+      Collection<? extends Map<YearMonth, MonthlySummary>> users, YearMonth month) {
+    return users.parallelStream()
+        .map(summaries -> summaries.get(month))
+        .filter(Objects::nonNull)
+        .reduce(MonthlySummary::combine);
+  }
+
+  /**
+   * Distribution of monthly average weight across the users with readings that month. Use {@link
+   * KllSketch#rank} for the population percentile of a given average, or {@link
+   * KllSketch#quantile} for the average at a given percentile.
+   */
+  static KllSketch monthlyAverageDistribution(
+      Collection<? extends Map<YearMonth, MonthlySummary>> users, YearMonth month) {
+    KllSketch distribution = new KllSketch();
+    for (Map<YearMonth, MonthlySummary> summaries : users) {
+      MonthlySummary summary = summaries.get(month);
+      if (summary != null) distribution.update(summary.average());
+    }
+    return distribution;
+  }
+
+  /**
+   * Distribution, across the users with readings that month, of the fraction of their readings
+   * within a percent of the target weight. Matches {@link WeightCalcs#bandpassWeight} for each user
+   * whenever their month has no more readings than the sketch keeps exactly.
+   *
+   * @param bound Percent above or below target, written out of 1 (ie 50% is 0.5)
+   */
+  static KllSketch timeInBandDistribution(
+      Collection<? extends Map<YearMonth, MonthlySummary>> users,
+      YearMonth month,
+      double weight,
+      double bound) {
+    double upperBound = (1 + bound) * weight;
+    double lowerBound = (1 - bound) * weight;
+
+    KllSketch distribution = new KllSketch();
+    for (Map<YearMonth, MonthlySummary> summaries : users) {
+      MonthlySummary summary = summaries.get(month);
+      if (summary != null) {
+        distribution.update(summary.weights.fractionWithin(lowerBound, upperBound));
+      }
+    }
+    return distribution;
+  }
+}
@@ -0,0 +1,197 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * KLL quantile sketch. Keeps a bounded number of samples in levels of compactors, where an item in
+ * level h stands for 2^h original values, so rank and quantile queries have error proportional to
+ * 1/k regardless of how many values were added. Sketches can be merged in any order.
+ *
+ * <p>Until a sketch has seen more than k values nothing is compacted and queries are exact.
+ */
+public class KllSketch {
+  static final int DEFAULT_K = 200;
+  private static final double CAPACITY_DECAY = 2.0 / 3.0;
+  private static final int MIN_CAPACITY = 2;
+
+  private final int k;
+  private final List<double[]> levels = new ArrayList<>();
+  private final List<Integer> levelSizes = new ArrayList<>();
+  private long count;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+  private boolean compactOdd;
+
+  public KllSketch() {
+    this(DEFAULT_K);
+  }
+
+  public KllSketch(int k) {
+    if (k < MIN_CAPACITY) throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY);
+    this.k = k;
+    addLevel();
+  }
+
+  /** Returns an independent copy of this sketch. */
+  KllSketch copy() {
+    KllSketch copy = new KllSketch(k);
+    copy.merge(this);
+    copy.compactOdd = compactOdd;
+    return copy;
+  }
+
+  long getCount() {
+    return count;
+  }
+
+  double getMin() {
+    return min;
+  }
+
+  double getMax() {
+    return max;
+  }
+
+  void update(double value) {
+    if (Double.isNaN(value)) return;
+    count++;
+    min = Double.isNaN(min) ? value : Math.min(min, value);
+    max = Double.isNaN(max) ? value : Math.max(max, value);
+    append(0, value);
+    compress();
+  }
+
+  /**
+   * Adds the contents of the other sketch to this one. The other sketch is not modified, unless it
+   * is this sketch, in which case its contents are added to themselves.
+   */
+  void merge(KllSketch other) {
+    if (other.count == 0) return;
+    // appending to our own levels would grow the loop bounds below as we read them
+    if (other == this) other = copy();
+    count += other.count;
+    min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+    max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+
+    for (int h = 0; h < other.levels.size(); h++) {
+      while (levels.size() <= h) addLevel();
+      double[] items = other.levels.get(h);
+      for (int i = 0; i < other.levelSizes.get(h); i++) append(h, items[i]);
+    }
+    compress();
+  }
+
+  /** Estimated fraction of values less than or equal to the given value. */
+  double rank(double value) {
+    return count == 0 ? Double.NaN : (double) weightWhere(Double.NEGATIVE_INFINITY, value) / count;
+  }
+
+  /** Estimated fraction of values within [lower, upper]. */
+  double fractionWithin(double lower, double upper) {
+    if (count == 0) return Double.NaN;
+    return (double) weightWhere(Math.nextDown(lower), upper) / count;
+  }
+
+  /** Estimated value at the given quantile, written out of 1 (ie the median is 0.5). */
+  double quantile(double quantile) {
+    if (count == 0) return Double.NaN;
+    if (quantile <= 0) return min;
+    if (quantile >= 1) return max;
+
+    int retained = 0;
+    for (int size : levelSizes) retained += size;
+    double[] values = new double[retained];
+    long[] weights = new long[retained];
+    int index = 0;
+    for (int h = 0; h < levels.size(); h++) {
+      double[] items = levels.get(h);
+      for (int i = 0; i < levelSizes.get(h); i++) {
+        values[index] = items[i];
+        weights[index++] = 1L << h;
+      }
+    }
+
+    Integer[] order = new Integer[retained];
+    for (int i = 0; i < retained; i++) order[i] = i;
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+    double target = quantile * count;
+    long cumulative = 0;
+    for (int i : order) {
+      cumulative += weights[i];
+      if (cumulative >= target) return values[i];
+    }
+    return max;
+  }
+
+  /** Total weight of retained items in (lowerExclusive, upperInclusive]. */
+  private long weightWhere(double lowerExclusive, double upperInclusive) {
+    long weight = 0;
+    for (int h = 0; h < levels.size(); h++) {
+      double[] items = levels.get(h);
+      for (int i = 0; i < levelSizes.get(h); i++) {
+        if (items[i] > lowerExclusive && items[i] <= upperInclusive) weight += 1L << h;
+      }
+    }
+    return weight;
+  }
+
+  private void addLevel() {
+    levels.add(new double[MIN_CAPACITY]);
+    levelSizes.add(0);
+  }
+
+  private void append(int level, double value) {
+    double[] items = levels.get(level);
+    int size = levelSizes.get(level);
+    if (size == items.length) {
+      items = Arrays.copyOf(items, items.length * 2);
+      levels.set(level, items);
+    }
+    items[size] = value;
+    levelSizes.set(level, size + 1);
+  }
+
+  /** Capacity of a level, shrinking geometrically from k at the top level. */
+  private int capacity(int level) {
+    int depth = levels.size() - level - 1;
+    return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+  }
+
+  /** Compacts the lowest over full level until every level fits within its capacity. */
+  private void compress() {
+    boolean compacted = true;
+    while (compacted) {
+      compacted = false;
+      for (int h = 0; h < levels.size() && !compacted; h++) {
+        if (levelSizes.get(h) > capacity(h)) {
+          compact(h);
+          compacted = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sorts the level and promotes every other item to the next level, where it carries double the
+   * weight. Alternating which half is kept keeps the estimate unbiased without making results
+   * depend on a random source.
+   */
+  private void compact(int level) {
+    if (level + 1 == levels.size()) addLevel();
+
+    double[] items = levels.get(level);
+    int size = levelSizes.get(level);
+    Arrays.sort(items, 0, size);
+    // an odd item out stays behind so no weight is lost
+    int paired = size & ~1;
+    int start = compactOdd ? 1 : 0;
+    compactOdd = !compactOdd;
+    for (int i = start; i < paired; i += 2) append(level + 1, items[i]);
+
+    if (paired != size) {
+      items[0] = items[size - 1];
+      levelSizes.set(level, 1);
+    } else levelSizes.set(level, 0);
+  }
+}
@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.RandomAccess;
+
+/**
+ * Column oriented body data stored outside of the java heap. Epoch days, weight, body fat and
+ * muscle mass each live in their own column of a single buffer, which is either allocated directly
+ * or memory mapped from a file so that several processes can share the same pages.
+ *
+ * <p>Presents itself as a read only list so it can be handed to {@link WeightCalcs} and {@link
+ * UserReports} in place of an arraylist. Elements are materialized on access and are not retained,
+ * so the live heap does not grow with the size of the history. Each access through the list still
+ * allocates a short lived body data, so scans through WeightCalcs produce garbage in proportion to
+ * the elements read (history times window for rollingAvg). Scans that need to avoid that should
+ * read the primitive column accessors instead.
+ *
+ * <p>File layout: magic, size, int epoch day column, padding to an 8 byte boundary, then the
+ * weight, body fat and muscle mass double columns. Missing body fat or muscle mass values are
+ * stored as NaN.
+ */
+public class OffHeapBodyData extends AbstractList<BodyData> implements RandomAccess, AutoCloseable {
+  private static final int MAGIC = 0x47444C31; // "GDL1"
+  private static final int HEADER_BYTES = 8;
+
+  private final int size;
+  private final int weightOffset;
+  private final int bodyFatOffset;
+  private final int muscleMassOffset;
+  private ByteBuffer buffer;
+
+  private OffHeapBodyData(ByteBuffer buffer) {
+    if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IllegalStateException("Buffer does not contain off heap body data");
+    }
+    int size = buffer.getInt(4);
+    if (size < 0 || buffer.capacity() < byteSize(size)) {
+      throw new IllegalStateException(
+          "Buffer is too short for " + size + " entries of off heap body data");
+    }
+    this.buffer = buffer;
+    this.size = size;
+    this.weightOffset = alignedDaysEnd(size);
+    this.bodyFatOffset = weightOffset + size * Double.BYTES;
+    this.muscleMassOffset = bodyFatOffset + size * Double.BYTES;
+  }
+
+  private static int alignedDaysEnd(int size) {
+    int daysEnd = HEADER_BYTES + size * Integer.BYTES;
+    return (daysEnd + Double.BYTES - 1) & -Double.BYTES;
+  }
+
+  /** Computed in longs so a corrupt size read from a file cannot overflow. */
+  private static long byteSize(long size) {
+    long daysEnd = HEADER_BYTES + size * Integer.BYTES;
+    return ((daysEnd + Double.BYTES - 1) & -Double.BYTES) + 3 * size * Double.BYTES;
+  }
+
+  /** Copies the data column by column into the buffer, which must hold byteSize(data.size()). */
+  private static void fill(ByteBuffer buffer, List<BodyData> data) {
+    int size = data.size();
+    int weightOffset = alignedDaysEnd(size);
+    int bodyFatOffset = weightOffset + size * Double.BYTES;
+    int muscleMassOffset = bodyFatOffset + size * Double.BYTES;
+
+    buffer.putInt(0, MAGIC);
+    buffer.putInt(4, size);
+    for (int i = 0; i < size; i++) {
+      BodyData bodyData = data.get(i);
+      buffer.putInt(HEADER_BYTES + i * Integer.BYTES, (int) bodyData.getDate().toEpochDay());
+      buffer.putDouble(weightOffset + i * Double.BYTES, bodyData.getWeight());
+      buffer.putDouble(
+          bodyFatOffset + i * Double.BYTES, bodyData.getBodyFat().orElse(Double.NaN));
+      buffer.putDouble(
+          muscleMassOffset + i * Double.BYTES, bodyData.getMuscleMass().orElse(Double.NaN));
+    }
+  }
+
+  /** Copies the data into a freshly allocated direct buffer. */
+  static OffHeapBodyData allocate(List<BodyData> data) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(byteSize(data.size())));
+    fill(buffer, data);
+    return new OffHeapBodyData(buffer);
+  }
+
+  /** Writes the data to a file in the off heap layout, replacing any existing contents. */
+  static void write(Path file, List<BodyData> data) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer =
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, byteSize(data.size()));
+      fill(buffer, data);
+      buffer.force();
+    }
+  }
+
+  /** Maps a file previously produced by {@link #write} as read only. */
+  static OffHeapBodyData map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new OffHeapBodyData(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  private ByteBuffer buffer() {
+    if (buffer == null) throw new IllegalStateException("Off heap body data has been closed");
+    return buffer;
+  }
+
+  public int getEpochDay(int index) {
+    return buffer().getInt(HEADER_BYTES + checkIndex(index) * Integer.BYTES);
+  }
+
+  public double getWeight(int index) {
+    return buffer().getDouble(weightOffset + checkIndex(index) * Double.BYTES);
+  }
+
+  public OptionalDouble getBodyFat(int index) {
+    return optional(buffer().getDouble(bodyFatOffset + checkIndex(index) * Double.BYTES));
+  }
+
+  public OptionalDouble getMuscleMass(int index) {
+    return optional(buffer().getDouble(muscleMassOffset + checkIndex(index) * Double.BYTES));
+  }
+
+  private static OptionalDouble optional(double value) {
+    return Double.isNaN(value) ? OptionalDouble.empty() : OptionalDouble.of(value);
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+    return index;
+  }
+
+  @Override
+  public BodyData get(int index) {
+    return new BodyData(
+        LocalDate.ofEpochDay(getEpochDay(index)),
+        getWeight(index),
+        getBodyFat(index),
+        getMuscleMass(index));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Releases this view of the off heap memory. Any further access throws. The underlying memory is
+   * returned once the buffer is unreachable, which the jdk does not allow to be forced.
+   */
+  @Override
+  public void close() {
+    buffer = null;
+  }
+}
@@ -0,0 +1,189 @@
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.RandomAccess;
+
+/**
+ * Body data stored as fixed point tenths, the resolution Garmin reports weight, body fat and muscle
+ * mass at. Each metric takes a short instead of a double, and aggregation is done on integer sums
+ * so results are exact and do not depend on summation order. Values are only converted back to
+ * doubles when a result is built.
+ *
+ * <p>Presents itself as a read only list so it can be used anywhere an arraylist of body data is.
+ */
+public class QuantizedBodyData extends AbstractList<BodyData> implements RandomAccess {
+  private static final short MISSING = Short.MIN_VALUE;
+  private static final double SCALE = 10.0;
+
+  private final int[] epochDays;
+  private final short[] weight;
+  private final short[] bodyFat;
+  private final short[] muscleMass;
+
+  private QuantizedBodyData(int size) {
+    epochDays = new int[size];
+    weight = new short[size];
+    bodyFat = new short[size];
+    muscleMass = new short[size];
+  }
+
+  /** Quantizes the data, rounding each value to the nearest tenth. */
+  static QuantizedBodyData of(List<BodyData> data) {
+    QuantizedBodyData quantized = new QuantizedBodyData(data.size());
+    for (int i = 0; i < data.size(); i++) {
+      BodyData bodyData = data.get(i);
+      quantized.epochDays[i] = (int) bodyData.getDate().toEpochDay();
+      quantized.weight[i] = quantize(bodyData.getWeight());
+      quantized.bodyFat[i] = quantize(bodyData.getBodyFat());
+      quantized.muscleMass[i] = quantize(bodyData.getMuscleMass());
+    }
+    return quantized;
+  }
+
+  private static short quantize(OptionalDouble value) {
+    return value.isPresent() ? quantize(value.getAsDouble()) : MISSING;
+  }
+
+  private static short quantize(double value) {
+    long tenths = Math.round(value * SCALE);
+    if (tenths <= MISSING || tenths > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Value out of range for quantized storage: " + value);
+    }
+    return (short) tenths;
+  }
+
+  private static OptionalDouble value(short tenths) {
+    return tenths == MISSING ? OptionalDouble.empty() : OptionalDouble.of(tenths / SCALE);
+  }
+
+  private static OptionalDouble average(long sum, int count) {
+    return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(sum / (SCALE * count));
+  }
+
+  @Override
+  public BodyData get(int index) {
+    return new BodyData(
+        LocalDate.ofEpochDay(epochDays[index]),
+        weight[index] / SCALE,
+        value(bodyFat[index]),
+        value(muscleMass[index]));
+  }
+
+  @Override
+  public int size() {
+    return epochDays.length;
+  }
+
+  /**
+   * Same result as {@link WeightCalcs#rollingAvg} for windows of at least one entry, but each
+   * window is updated incrementally from integer sums rather than re-summed in floating point.
+   */
+  ArrayList<BodyData> rollingAvg(int window) {
+    if (window < 1) throw new IllegalArgumentException("Window must be at least 1: " + window);
+    int size = size();
+    BodyData[] means = new BodyData[size];
+
+    long weightSum = 0;
+    long bodyFatSum = 0;
+    int bodyFatCount = 0;
+    long muscleMassSum = 0;
+    int muscleMassCount = 0;
+
+    // windows cover [i, i + window), so walk from the end adding i and dropping i + window
+    for (int i = size - 1; i >= 0; i--) {
+      weightSum += weight[i];
+      if (bodyFat[i] != MISSING) {
+        bodyFatSum += bodyFat[i];
+        bodyFatCount++;
+      }
+      if (muscleMass[i] != MISSING) {
+        muscleMassSum += muscleMass[i];
+        muscleMassCount++;
+      }
+
+      int dropped = i + window;
+      if (dropped < size) {
+        weightSum -= weight[dropped];
+        if (bodyFat[dropped] != MISSING) {
+          bodyFatSum -= bodyFat[dropped];
+          bodyFatCount--;
+        }
+        if (muscleMass[dropped] != MISSING) {
+          muscleMassSum -= muscleMass[dropped];
+          muscleMassCount--;
+        }
+      }
+
+      means[i] =
+          new BodyData(
+              LocalDate.ofEpochDay(epochDays[i]),
+              average(weightSum, Math.min(window, size - i)).getAsDouble(),
+              average(bodyFatSum, bodyFatCount),
+              average(muscleMassSum, muscleMassCount));
+    }
+
+    return new ArrayList<>(Arrays.asList(means));
+  }
+
+  /**
+   * Same result as {@link WeightCalcs#reportForTimeFrame}, with the date range resolved the same
+   * way as {@link WeightCalcs#getTimeframe} and the average taken from an exact integer sum.
+   */
+  TimeFrameReport reportForTimeFrame(LocalDate startDate, LocalDate endDate) {
+    int size = size();
+    LocalDate latestDate = LocalDate.ofEpochDay(epochDays[0]);
+    LocalDate earliestDate = LocalDate.ofEpochDay(epochDays[size - 1]);
+
+    if (startDate.isAfter(latestDate)) {
+      return new TimeFrameReport(
+          latestDate, latestDate, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN);
+    } else if (endDate.isBefore(earliestDate)) {
+      return new TimeFrameReport(
+          earliestDate, earliestDate, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN);
+    }
+
+    // latest entry that does not exceed the end date, earliest entry on or after the start date
+    int latest = firstIndexBefore(endDate.toEpochDay() + 1);
+    int earliest = firstIndexBefore(startDate.toEpochDay()) - 1;
+    if (latest > earliest) {
+      // the range falls in a gap; report the dates on either side of it, as getTimeframe does
+      return new TimeFrameReport(
+          LocalDate.ofEpochDay(epochDays[earliest]),
+          LocalDate.ofEpochDay(epochDays[latest]),
+          Double.MAX_VALUE,
+          Double.MIN_VALUE,
+          Double.NaN);
+    }
+
+    long weightSum = 0;
+    short min = Short.MAX_VALUE;
+    short max = Short.MIN_VALUE;
+    for (int i = latest; i <= earliest; i++) {
+      weightSum += weight[i];
+      if (weight[i] < min) min = weight[i];
+      if (weight[i] > max) max = weight[i];
+    }
+
+    return new TimeFrameReport(
+        LocalDate.ofEpochDay(epochDays[earliest]),
+        LocalDate.ofEpochDay(epochDays[latest]),
+        min / SCALE,
+        max / SCALE,
+        average(weightSum, earliest - latest + 1).getAsDouble());
+  }
+
+  /** Index of the first entry dated before the given day. Entries are ordered latest first. */
+  private int firstIndexBefore(long day) {
+    int low = 0;
+    int high = epochDays.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (epochDays[mid] >= day) low = mid + 1;
+      else high = mid;
+    }
+    return low;
+  }
+}
@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Runs a job of reports over a set of named datasets. Every dataset is loaded once, concurrently
+ * with the others, and each report starts as soon as the datasets it depends on are loaded. Report
+ * output is returned in the order the reports were declared, regardless of completion order.
+ */
+public class ReportScheduler {
+  private final Map<String, Callable<List<BodyData>>> datasets = new LinkedHashMap<>();
+  private final List<ScheduledReport> reports = new ArrayList<>();
+
+  /** A report over several datasets, which are passed in keyed by name. */
+  public interface Report {
+    String run(Map<String, List<BodyData>> data);
+  }
+
+  private static class ScheduledReport {
+    List<String> datasets;
+    Report report;
+
+    public ScheduledReport(List<String> datasets, Report report) {
+      this.datasets = datasets;
+      this.report = report;
+    }
+  }
+
+  /** Declares a dataset loaded by the given loader. */
+  ReportScheduler dataset(String name, Callable<List<BodyData>> loader) {
+    if (datasets.putIfAbsent(name, loader) != null) {
+      throw new IllegalArgumentException("Dataset already declared: " + name);
+    }
+    return this;
+  }
+
+  /** Declares a dataset read from a Garmin csv export. */
+  ReportScheduler dataset(String name, String fileName) {
+    return dataset(name, () -> new Scanner().readFile(fileName));
+  }
+
+  /** Declares a report over a single dataset. */
+  ReportScheduler report(String dataset, Function<List<BodyData>, String> report) {
+    return report(Collections.singletonList(dataset), data -> report.apply(data.get(dataset)));
+  }
+
+  /** Declares a report over several datasets. The datasets must already be declared. */
+  ReportScheduler report(List<String> dependencies, Report report) {
+    for (String dataset : dependencies) {
+      if (!datasets.containsKey(dataset)) {
+        throw new IllegalArgumentException("Report depends on undeclared dataset: " + dataset);
+      }
+    }
+    reports.add(new ScheduledReport(new ArrayList<>(dependencies), report));
+    return this;
+  }
+
+  /** Runs the job on a thread pool sized to the available processors. */
+  List<String> run() {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try {
+      return run(executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Runs the job on the given executor and waits for every report. If a load or report fails, its
+   * exception is rethrown once all reports have settled.
+   */
+  List<String> run(ExecutorService executor) {
+    Map<String, CompletableFuture<List<BodyData>>> loaded = new HashMap<>();
+    datasets.forEach(
+        (name, loader) ->
+            loaded.put(name, CompletableFuture.supplyAsync(() -> load(name, loader), executor)));
+
+    List<CompletableFuture<String>> outputs = new ArrayList<>();
+    for (ScheduledReport scheduled : reports) {
+      CompletableFuture<?>[] dependencies =
+          scheduled.datasets.stream().map(loaded::get).toArray(CompletableFuture[]::new);
+      outputs.add(
+          CompletableFuture.allOf(dependencies)
+              .thenApplyAsync(
+                  ignored -> {
+                    Map<String, List<BodyData>> data = new HashMap<>();
+                    scheduled.datasets.forEach(name -> data.put(name, loaded.get(name).join()));
+                    return scheduled.report.run(data);
+                  },
+                  executor));
+    }
+
+    try {
+      CompletableFuture.allOf(outputs.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+      throw new IllegalStateException(e.getCause());
+    }
+
+    List<String> results = new ArrayList<>();
+    outputs.forEach(output -> results.add(output.join()));
+    return results;
+  }
+
+  private static List<BodyData> load(String name, Callable<List<BodyData>> loader) {
+    try {
+      return loader.call();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException("Unable to load dataset " + name, e);
+    }
+  }
+}
@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * Bulk writer for computed series and report results. Rows are encoded straight into a reusable
+ * byte buffer with fixed precision number formatting and drained to the channel whenever the
+ * buffer fills, so exporting a long series does not allocate per row.
+ *
+ * <p>Each write call emits one complete document: a csv table with a heading line, or a json array.
+ * Missing values are written as an empty csv field or json null, as are values too large to
+ * format and the min and max of a report over an empty range. Numbers use the precision
+ * prettyPrint uses, weights to 2 places, body fat to 1 and fractions to 4, and are rounded half up
+ * on their shortest decimal representation so they match String.format.
+ */
+public class SeriesExporter {
+  private static final int BUFFER_BYTES = 64 * 1024;
+  private static final int MAX_ROW_BYTES = 256;
+  private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+  /** Distance from a tie, in ulps of the scaled product, treated as possibly being a tie. */
+  private static final int TIE_ULPS = 4;
+
+  enum Format {
+    CSV,
+    JSON
+  }
+
+  private final Format format;
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+  public SeriesExporter(Format format, WritableByteChannel channel) {
+    this.format = format;
+    this.channel = channel;
+  }
+
+  /** Writes a series of body data, such as the output of rollingAvg, one row per entry. */
+  void writeSeries(List<BodyData> series) throws IOException {
+    if (format == Format.CSV) putAscii("date,weight,bodyFat,muscleMass\n");
+    else putAscii("[");
+
+    for (int i = 0; i < series.size(); i++) {
+      ensureRowCapacity();
+      BodyData bodyData = series.get(i);
+      if (format == Format.CSV) {
+        putDate(bodyData.getDate());
+        putByte(',');
+        putFixed(bodyData.getWeight(), 2);
+        putByte(',');
+        putOptional(bodyData.getBodyFat(), 1);
+        putByte(',');
+        putOptional(bodyData.getMuscleMass(), 2);
+        putByte('\n');
+      } else {
+        if (i != 0) putByte(',');
+        putAscii("\n{\"date\":\"");
+        putDate(bodyData.getDate());
+        putAscii("\",\"weight\":");
+        putFixed(bodyData.getWeight(), 2);
+        putAscii(",\"bodyFat\":");
+        putOptional(bodyData.getBodyFat(), 1);
+        putAscii(",\"muscleMass\":");
+        putOptional(bodyData.getMuscleMass(), 2);
+        putByte('}');
+      }
+    }
+
+    if (format == Format.JSON) putAscii("\n]\n");
+    flush();
+  }
+
+  /** Writes timeframe reports, one row per report. */
+  void writeReports(List<TimeFrameReport> reports) throws IOException {
+    if (format == Format.CSV) putAscii("startDate,endDate,min,max,avg\n");
+    else putAscii("[");
+
+    for (int i = 0; i < reports.size(); i++) {
+      ensureRowCapacity();
+      TimeFrameReport report = reports.get(i);
+      // an empty range leaves min and max at their sentinels and the average undefined
+      boolean empty = Double.isNaN(report.avg);
+      double min = empty ? Double.NaN : report.min;
+      double max = empty ? Double.NaN : report.max;
+      if (format == Format.CSV) {
+        putDate(report.startDate);
+        putByte(',');
+        putDate(report.endDate);
+        putByte(',');
+        putFixed(min, 2);
+        putByte(',');
+        putFixed(max, 2);
+        putByte(',');
+        putFixed(report.avg, 2);
+        putByte('\n');
+      } else {
+        if (i != 0) putByte(',');
+        putAscii("\n{\"startDate\":\"");
+        putDate(report.startDate);
+        putAscii("\",\"endDate\":\"");
+        putDate(report.endDate);
+        putAscii("\",\"min\":");
+        putFixed(min, 2);
+        putAscii(",\"max\":");
+        putFixed(max, 2);
+        putAscii(",\"avg\":");
+        putFixed(report.avg, 2);
+        putByte('}');
+      }
+    }
+
+    if (format == Format.JSON) putAscii("\n]\n");
+    flush();
+  }
+
+  /** Writes bandpass results, one row per result. The percent is written as a fraction of 1. */
+  void writeBandPassResults(List<WeightCalcs.BandPassResult> results) throws IOException {
+    if (format == Format.CSV) putAscii("startDate,endDate,percent\n");
+    else putAscii("[");
+
+    for (int i = 0; i < results.size(); i++) {
+      ensureRowCapacity();
+      WeightCalcs.BandPassResult result = results.get(i);
+      if (format == Format.CSV) {
+        putDate(result.startDate);
+        putByte(',');
+        putDate(result.endDate);
+        putByte(',');
+        putFixed(result.percent, 4);
+        putByte('\n');
+      } else {
+        if (i != 0) putByte(',');
+        putAscii("\n{\"startDate\":\"");
+        putDate(result.startDate);
+        putAscii("\",\"endDate\":\"");
+        putDate(result.endDate);
+        putAscii("\",\"percent\":");
+        putFixed(result.percent, 4);
+        putByte('}');
+      }
+    }
+
+    if (format == Format.JSON) putAscii("\n]\n");
+    flush();
+  }
+
+  private void ensureRowCapacity() throws IOException {
+    if (buffer.remaining() < MAX_ROW_BYTES) flush();
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) channel.write(buffer);
+    buffer.clear();
+  }
+
+  private void putByte(char c) {
+    buffer.put((byte) c);
+  }
+
+  private void putAscii(String s) throws IOException {
+    for (int i = 0; i < s.length(); i++) {
+      if (!buffer.hasRemaining()) flush();
+      putByte(s.charAt(i));
+    }
+  }
+
+  /** Writes the date as yyyy-mm-dd, matching LocalDate.toString for four digit years. */
+  private void putDate(LocalDate date) {
+    putDigits(date.getYear(), 4);
+    putByte('-');
+    putDigits(date.getMonthValue(), 2);
+    putByte('-');
+    putDigits(date.getDayOfMonth(), 2);
+  }
+
+  /** Writes the lowest width digits of value, zero padded. */
+  private void putDigits(long value, int width) {
+    int end = buffer.position() + width;
+    for (int i = end - 1; i >= end - width; i--) {
+      buffer.put(i, (byte) ('0' + value % 10));
+      value /= 10;
+    }
+    buffer.position(end);
+  }
+
+  private void putOptional(OptionalDouble value, int decimals) {
+    if (value.isPresent()) putFixed(value.getAsDouble(), decimals);
+    else if (format == Format.JSON) putNull();
+  }
+
+  private void putNull() {
+    putByte('n');
+    putByte('u');
+    putByte('l');
+    putByte('l');
+  }
+
+  /**
+   * Writes value rounded half up to the requested number of decimal places. Rounding the binary
+   * product can land on the wrong side of a decimal tie (1.005 is stored just below it), so
+   * products within a few ulps of a tie are rounded on the shortest decimal representation, as
+   * String.format does. Only those products take the slower, allocating path.
+   */
+  private void putFixed(double value, int decimals) {
+    double product = Math.abs(value) * POWERS_OF_TEN[decimals];
+    if (Double.isNaN(value) || !(product < Long.MAX_VALUE)) {
+      if (format == Format.JSON) putNull();
+      return;
+    }
+
+    long scaled;
+    double fraction = product - Math.floor(product);
+    if (Math.abs(fraction - 0.5) <= TIE_ULPS * Math.ulp(product)) {
+      scaled =
+          new BigDecimal(Double.toString(Math.abs(value)))
+              .setScale(decimals, RoundingMode.HALF_UP)
+              .unscaledValue()
+              .longValueExact();
+    } else scaled = Math.round(product);
+    if (value < 0 && scaled != 0) putByte('-');
+
+    long whole = scaled / POWERS_OF_TEN[decimals];
+    putDigits(whole, digitCount(whole));
+    if (decimals > 0) {
+      putByte('.');
+      putDigits(scaled % POWERS_OF_TEN[decimals], decimals);
+    }
+  }
+
+  private static int digitCount(long value) {
+    int count = 1;
+    while (value >= 10) {
+      value /= 10;
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,188 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Computes several smoothings of a dataset in a single chronological pass. Each declared output
+ * keeps its own running state and is updated once per entry, so adding outputs does not add passes
+ * over the data.
+ *
+ * <p>Outputs are lists ordered like the input, latest date first.
+ */
+public class SmoothingPipeline {
+  /** Daily smoothing of the trend line in The Hacker's Diet. */
+  static final double HACKERS_DIET_SMOOTHING = 0.1;
+
+  private final Map<String, SmootherFactory> outputs = new LinkedHashMap<>();
+
+  /** Running state of one output, fed entries oldest first. */
+  private interface Smoother {
+    BodyData accept(BodyData bodyData);
+  }
+
+  private interface SmootherFactory {
+    Smoother create();
+  }
+
+  private SmoothingPipeline add(String name, SmootherFactory factory) {
+    if (outputs.putIfAbsent(name, factory) != null) {
+      throw new IllegalArgumentException("Output already declared: " + name);
+    }
+    return this;
+  }
+
+  /** Declares an equal weight average over a trailing window of entries, matching rollingAvg. */
+  SmoothingPipeline simpleAverage(String name, int window) {
+    if (window < 1) throw new IllegalArgumentException("Window must be at least 1: " + window);
+    return add(name, () -> new SimpleAverage(window));
+  }
+
+  /**
+   * Declares an exponential moving average with the given smoothing per day. Gaps between entries
+   * decay the previous value as if the missing days had been observed, so the value after a gap of
+   * g days keeps (1 - smoothing)^g of its previous weight.
+   *
+   * <p>Body fat and muscle mass are smoothed over the days they were recorded. Days without them
+   * carry the current smoothed value forward, and they are empty until first recorded.
+   */
+  SmoothingPipeline exponential(String name, double smoothing) {
+    if (smoothing <= 0 || smoothing > 1) {
+      throw new IllegalArgumentException("Smoothing must be in (0, 1]: " + smoothing);
+    }
+    return add(name, () -> new Exponential(smoothing));
+  }
+
+  /** Declares The Hacker's Diet trend line: an exponential average with 10% smoothing per day. */
+  SmoothingPipeline hackersDietTrend(String name) {
+    return exponential(name, HACKERS_DIET_SMOOTHING);
+  }
+
+  /** Runs every declared output over the data in one pass, returning them by name in order. */
+  LinkedHashMap<String, ArrayList<BodyData>> run(List<BodyData> data) {
+    int size = data.size();
+    List<Smoother> smoothers = new ArrayList<>();
+    List<BodyData[]> results = new ArrayList<>();
+    for (SmootherFactory factory : outputs.values()) {
+      smoothers.add(factory.create());
+      results.add(new BodyData[size]);
+    }
+
+    for (int i = size - 1; i >= 0; i--) {
+      BodyData bodyData = data.get(i);
+      for (int output = 0; output < smoothers.size(); output++) {
+        results.get(output)[i] = smoothers.get(output).accept(bodyData);
+      }
+    }
+
+    LinkedHashMap<String, ArrayList<BodyData>> smoothed = new LinkedHashMap<>();
+    int output = 0;
+    for (String name : outputs.keySet()) {
+      smoothed.put(name, new ArrayList<>(Arrays.asList(results.get(output++))));
+    }
+    return smoothed;
+  }
+
+  /** Trailing window over the last entries, kept in a ring buffer with running sums. */
+  private static class SimpleAverage implements Smoother {
+    private final BodyData[] window;
+    private int next;
+    private int count;
+
+    private double weightSum;
+    private double bodyFatSum;
+    private int bodyFatCount;
+    private double muscleMassSum;
+    private int muscleMassCount;
+
+    public SimpleAverage(int window) {
+      this.window = new BodyData[window];
+    }
+
+    public BodyData accept(BodyData bodyData) {
+      BodyData dropped = window[next];
+      if (dropped != null) {
+        weightSum -= dropped.getWeight();
+        if (dropped.getBodyFat().isPresent()) {
+          bodyFatSum -= dropped.getBodyFat().getAsDouble();
+          bodyFatCount--;
+        }
+        if (dropped.getMuscleMass().isPresent()) {
+          muscleMassSum -= dropped.getMuscleMass().getAsDouble();
+          muscleMassCount--;
+        }
+      } else count++;
+
+      window[next] = bodyData;
+      next = (next + 1) % window.length;
+
+      weightSum += bodyData.getWeight();
+      if (bodyData.getBodyFat().isPresent()) {
+        bodyFatSum += bodyData.getBodyFat().getAsDouble();
+        bodyFatCount++;
+      }
+      if (bodyData.getMuscleMass().isPresent()) {
+        muscleMassSum += bodyData.getMuscleMass().getAsDouble();
+        muscleMassCount++;
+      }
+
+      return WeightCalcs.createAvgBodyData(
+          bodyData.getDate(),
+          weightSum,
+          count,
+          bodyFatSum,
+          bodyFatCount,
+          muscleMassSum,
+          muscleMassCount);
+    }
+  }
+
+  /** Exponential moving average of one metric, decayed by the days since its last value. */
+  private static class DecayingAverage {
+    private final double retainedPerDay;
+    private OptionalDouble value = OptionalDouble.empty();
+    private long lastDay;
+
+    public DecayingAverage(double smoothing) {
+      this.retainedPerDay = 1 - smoothing;
+    }
+
+    OptionalDouble accept(LocalDate date, OptionalDouble observed) {
+      if (observed.isPresent()) {
+        long day = date.toEpochDay();
+        if (value.isEmpty()) value = observed;
+        else {
+          double retained = Math.pow(retainedPerDay, day - lastDay);
+          double current = value.getAsDouble();
+          value = OptionalDouble.of(current + (1 - retained) * (observed.getAsDouble() - current));
+        }
+        lastDay = day;
+      }
+      return value;
+    }
+  }
+
+  private static class Exponential implements Smoother {
+    private final DecayingAverage weight;
+    private final DecayingAverage bodyFat;
+    private final DecayingAverage muscleMass;
+
+    public Exponential(double smoothing) {
+      weight = new DecayingAverage(smoothing);
+      bodyFat = new DecayingAverage(smoothing);
+      muscleMass = new DecayingAverage(smoothing);
+    }
+
+    public BodyData accept(BodyData bodyData) {
+      LocalDate date = bodyData.getDate();
+      return new BodyData(
+          date,
+          weight.accept(date, OptionalDouble.of(bodyData.getWeight())).getAsDouble(),
+          bodyFat.accept(date, bodyData.getBodyFat()),
+          muscleMass.accept(date, bodyData.getMuscleMass()));
+    }
+  }
+}
@@ -0,0 +1,267 @@
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Function;
+
+/**
+ * Least squares trend statistics for arbitrary date ranges of a dataset. Prefix sums of the
+ * moments of x (epoch day) and y (metric value) are computed once per metric, so the fit for any
+ * range comes from two lookups rather than a pass over the range.
+ *
+ * <p>Moments are taken around the earliest day and the first recorded value, which keeps the sums
+ * small enough that the range differences do not lose precision. Days missing a metric are skipped
+ * for that metric.
+ */
+public class TrendCalcs {
+
+  enum Metric {
+    WEIGHT("weight", bodyData -> OptionalDouble.of(bodyData.getWeight())),
+    BODY_FAT("body fat", BodyData::getBodyFat),
+    MUSCLE_MASS("muscle mass", BodyData::getMuscleMass);
+
+    final String label;
+    final Function<BodyData, OptionalDouble> value;
+
+    Metric(String label, Function<BodyData, OptionalDouble> value) {
+      this.label = label;
+      this.value = value;
+    }
+  }
+
+  /** Prefix sums for one metric. Index i holds the sums over data[0, i). */
+  private static class Moments {
+    double yOrigin;
+    int[] count;
+    double[] x;
+    double[] xx;
+    double[] y;
+    double[] yy;
+    double[] xy;
+
+    public Moments(int size) {
+      count = new int[size + 1];
+      x = new double[size + 1];
+      xx = new double[size + 1];
+      y = new double[size + 1];
+      yy = new double[size + 1];
+      xy = new double[size + 1];
+    }
+  }
+
+  private final long[] epochDays;
+  private final long xOrigin;
+  private final Moments[] moments = new Moments[Metric.values().length];
+
+  /** Precomputes the moment sums of every metric. Data is ordered latest date first. */
+  public TrendCalcs(List<BodyData> data) {
+    int size = data.size();
+    epochDays = new long[size];
+    for (int i = 0; i < size; i++) epochDays[i] = data.get(i).getDate().toEpochDay();
+    xOrigin = size == 0 ? 0 : epochDays[size - 1];
+
+    for (Metric metric : Metric.values()) {
+      Moments sums = new Moments(size);
+      boolean originSet = false;
+      for (int i = 0; i < size; i++) {
+        OptionalDouble value = metric.value.apply(data.get(i));
+        sums.count[i + 1] = sums.count[i];
+        sums.x[i + 1] = sums.x[i];
+        sums.xx[i + 1] = sums.xx[i];
+        sums.y[i + 1] = sums.y[i];
+        sums.yy[i + 1] = sums.yy[i];
+        sums.xy[i + 1] = sums.xy[i];
+
+        if (value.isPresent()) {
+          if (!originSet) {
+            sums.yOrigin = value.getAsDouble();
+            originSet = true;
+          }
+          double x = epochDays[i] - xOrigin;
+          double y = value.getAsDouble() - sums.yOrigin;
+          sums.count[i + 1]++;
+          sums.x[i + 1] += x;
+          sums.xx[i + 1] += x * x;
+          sums.y[i + 1] += y;
+          sums.yy[i + 1] += y * y;
+          sums.xy[i + 1] += x * y;
+        }
+      }
+      moments[metric.ordinal()] = sums;
+    }
+  }
+
+  public static class TrendResult {
+    LocalDate startDate;
+    LocalDate endDate;
+    int count;
+    double mean;
+    double variance;
+    double slopePerWeek;
+    double correlation;
+    double rSquared;
+    double residualDeviation;
+    private double valueAtOrigin;
+    private long xOrigin;
+
+    public TrendResult(
+        LocalDate startDate,
+        LocalDate endDate,
+        int count,
+        double mean,
+        double variance,
+        double slopePerWeek,
+        double correlation,
+        double residualDeviation,
+        double valueAtOrigin,
+        long xOrigin) {
+      this.startDate = startDate;
+      this.endDate = endDate;
+      this.count = count;
+      this.mean = mean;
+      this.variance = variance;
+      this.slopePerWeek = slopePerWeek;
+      this.correlation = correlation;
+      this.rSquared = correlation * correlation;
+      this.residualDeviation = residualDeviation;
+      this.valueAtOrigin = valueAtOrigin;
+      this.xOrigin = xOrigin;
+    }
+
+    /** Value of the fitted line on the given date. */
+    double valueAt(LocalDate date) {
+      return valueAtOrigin + slopePerWeek / 7 * (date.toEpochDay() - xOrigin);
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "{Slope: %.2f/week, R2: %.2f, Residual: %.2f}",
+          slopePerWeek, rSquared, residualDeviation);
+    }
+  }
+
+  public static class ChangePoint {
+    LocalDate changeDate;
+    TrendResult before;
+    TrendResult after;
+
+    public ChangePoint(LocalDate changeDate, TrendResult before, TrendResult after) {
+      this.changeDate = changeDate;
+      this.before = before;
+      this.after = after;
+    }
+  }
+
+  /**
+   * Fits a line to the metric over [startDate, endDate]. Returns empty if the range holds fewer
+   * than two recorded values.
+   */
+  Optional<TrendResult> trend(Metric metric, LocalDate startDate, LocalDate endDate) {
+    int latest = latestIndex(endDate);
+    int earliest = earliestIndex(startDate);
+    if (latest > earliest) return Optional.empty();
+    return fit(moments[metric.ordinal()], latest, earliest);
+  }
+
+  /**
+   * Finds the split of [startDate, endDate] into two consecutive trends with the lowest combined
+   * squared error. Each side must hold at least two recorded values. Every candidate split is
+   * scored from the prefix sums, so the scan is linear in the size of the range.
+   */
+  Optional<ChangePoint> changePoint(Metric metric, LocalDate startDate, LocalDate endDate) {
+    int latest = latestIndex(endDate);
+    int earliest = earliestIndex(startDate);
+    Moments sums = moments[metric.ordinal()];
+
+    int bestSplit = -1;
+    double bestError = Double.MAX_VALUE;
+    // the later trend covers [latest, split], the earlier one [split + 1, earliest]
+    for (int split = latest; split < earliest; split++) {
+      if (sums.count[split + 1] - sums.count[latest] < 2) continue;
+      if (sums.count[earliest + 1] - sums.count[split + 1] < 2) break;
+
+      double error = squaredError(sums, latest, split) + squaredError(sums, split + 1, earliest);
+      if (error < bestError) {
+        bestError = error;
+        bestSplit = split;
+      }
+    }
+
+    if (bestSplit == -1) return Optional.empty();
+    return Optional.of(
+        new ChangePoint(
+            LocalDate.ofEpochDay(epochDays[bestSplit]),
+            fit(sums, bestSplit + 1, earliest).orElseThrow(),
+            fit(sums, latest, bestSplit).orElseThrow()));
+  }
+
+  /** Index of the latest entry that does not exceed the date, or size if there is none. */
+  private int latestIndex(LocalDate date) {
+    long day = date.toEpochDay();
+    int low = 0;
+    int high = epochDays.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (epochDays[mid] > day) low = mid + 1;
+      else high = mid;
+    }
+    return low;
+  }
+
+  /** Index of the earliest entry on or after the date, or -1 if there is none. */
+  private int earliestIndex(LocalDate date) {
+    long day = date.toEpochDay();
+    int low = 0;
+    int high = epochDays.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (epochDays[mid] >= day) low = mid + 1;
+      else high = mid;
+    }
+    return low - 1;
+  }
+
+  /** Residual sum of squares of the fit over data[from, to]. */
+  private static double squaredError(Moments sums, int from, int to) {
+    int n = sums.count[to + 1] - sums.count[from];
+    double sx = sums.x[to + 1] - sums.x[from];
+    double sy = sums.y[to + 1] - sums.y[from];
+    double sxx = sums.xx[to + 1] - sums.xx[from] - sx * sx / n;
+    double syy = sums.yy[to + 1] - sums.yy[from] - sy * sy / n;
+    double sxy = sums.xy[to + 1] - sums.xy[from] - sx * sy / n;
+
+    if (sxx <= 0) return Math.max(0, syy);
+    return Math.max(0, syy - sxy * sxy / sxx);
+  }
+
+  private Optional<TrendResult> fit(Moments sums, int from, int to) {
+    int n = sums.count[to + 1] - sums.count[from];
+    if (n < 2) return Optional.empty();
+
+    double sx = sums.x[to + 1] - sums.x[from];
+    double sy = sums.y[to + 1] - sums.y[from];
+    double sxx = sums.xx[to + 1] - sums.xx[from] - sx * sx / n;
+    double syy = Math.max(0, sums.yy[to + 1] - sums.yy[from] - sy * sy / n);
+    double sxy = sums.xy[to + 1] - sums.xy[from] - sx * sy / n;
+
+    double slope = sxx > 0 ? sxy / sxx : Double.NaN;
+    double correlation = sxx > 0 && syy > 0 ? sxy / Math.sqrt(sxx * syy) : Double.NaN;
+    double residual =
+        n > 2 && sxx > 0 ? Math.sqrt(Math.max(0, syy - slope * sxy) / (n - 2)) : Double.NaN;
+    double interceptAtOrigin = sums.yOrigin + (sy - slope * sx) / n;
+
+    return Optional.of(
+        new TrendResult(
+            LocalDate.ofEpochDay(epochDays[to]),
+            LocalDate.ofEpochDay(epochDays[from]),
+            n,
+            sums.yOrigin + sy / n,
+            syy / (n - 1),
+            slope * 7,
+            correlation,
+            residual,
+            interceptAtOrigin,
+            xOrigin));
+  }
+}
@@ -1,19 +1,28 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Human readable reports over body data. Each report returns its text rather than printing it, so
+ * reports can be run concurrently and their output collected in a fixed order.
+ */
 public class UserReports {
 
-  static void bandpassWeightReport(
+  static String bandpassWeightReport(
       double weight,
       double bound,
       LocalDate startDate,
       LocalDate endDate,
-      ArrayList<BodyData> data) {
+      List<BodyData> data) {
     WeightCalcs.BandPassResult bandpassResult =
         WeightCalcs.bandpassWeight(weight, bound, startDate, endDate, data);
-    System.out.printf(
-        "BandpassWeight of %.2f%% around %.2f (%s to %s): %.2f%%%n",
+    return String.format(
+        "BandpassWeight of %.2f%% around %.2f (%s to %s): %.2f%%",
         bound * 100,
         weight,
         bandpassResult.startDate,
@@ -21,16 +30,16 @@ public class UserReports {
         bandpassResult.percent);
   }
 
-  static void bandpassBodyFatReport(
+  static String bandpassBodyFatReport(
       double bodyFat,
       double bound,
       LocalDate startDate,
       LocalDate endDate,
-      ArrayList<BodyData> data) {
+      List<BodyData> data) {
     WeightCalcs.BandPassResult bandpassResult =
         WeightCalcs.bandpassBodyFat(bodyFat, bound, startDate, endDate, data);
-    System.out.printf(
-        "BandpassBodyFat of %.2f%% around %.1f%% (%s to %s): %.2f%%%n",
+    return String.format(
+        "BandpassBodyFat of %.2f%% around %.1f%% (%s to %s): %.2f%%",
         bound * 100,
         bodyFat,
         bandpassResult.startDate,
@@ -38,17 +47,32 @@ public class UserReports {
         bandpassResult.percent);
   }
 
-  static void monthReport(int month, int year, ArrayList<BodyData> data) {
+  static String monthReport(int month, int year, List<BodyData> data) {
     TimeFrameReport report = WeightCalcs.reportForMonth(month, year, data);
-    System.out.printf("Report for %d-%d: %s%n", month, year, report);
+    return String.format("Report for %d-%d: %s", month, year, report);
   }
 
-  static void timeframeReport(LocalDate startDate, LocalDate endDate, ArrayList<BodyData> data) {
+  static String timeframeReport(LocalDate startDate, LocalDate endDate, List<BodyData> data) {
     TimeFrameReport report = WeightCalcs.reportForTimeFrame(startDate, endDate, data);
-    System.out.printf("Report for %s to %s: %s%n", report.startDate, report.endDate, report);
+    return String.format("Report for %s to %s: %s", report.startDate, report.endDate, report);
   }
 
-  static void rollingAvgReport(int window, ArrayList<BodyData> data, int displayLimit) {
+  static String trendReport(
+      TrendCalcs trends, TrendCalcs.Metric metric, LocalDate startDate, LocalDate endDate) {
+    return trends
+        .trend(metric, startDate, endDate)
+        .map(
+            trend ->
+                String.format(
+                    "Trend of %s for %s to %s: %s",
+                    metric.label,
+                    trend.startDate,
+                    trend.endDate,
+                    trend))
+        .orElse(String.format("Trend of %s for %s to %s: N/A", metric.label, startDate, endDate));
+  }
+
+  static String rollingAvgReport(int window, List<BodyData> data, int displayLimit) {
     // jrb: optimization possible - only roll enough for the report
     ArrayList<BodyData> rolled = WeightCalcs.rollingAvg(window, data);
     String collect =
@@ -56,8 +80,22 @@ public class UserReports {
             .map(BodyData::prettyPrint)
             .limit(displayLimit)
             .collect(Collectors.joining("\n"));
-    System.out.printf(
-        "\nRolled window of %d viewing first %d samples: \n%3sDate%10sWeight%6sBodyFat%4sMuscleMass \n%s%n",
+    return String.format(
+        "\nRolled window of %d viewing first %d samples: \n%3sDate%10sWeight%6sBodyFat%4sMuscleMass \n%s",
         window, displayLimit, " ", " ", " ", " ", collect);
   }
+
+  static void rollingAvgExport(
+      int window, List<BodyData> data, SeriesExporter.Format format, Path file)
+      throws IOException {
+    ArrayList<BodyData> rolled = WeightCalcs.rollingAvg(window, data);
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      new SeriesExporter(format, channel).writeSeries(rolled);
+    }
+  }
 }
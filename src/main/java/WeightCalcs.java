@@ -8,7 +8,7 @@ import java.util.concurrent.atomic.AtomicReference;
 public class WeightCalcs {
 
   /** Averages aggregations and constructs new main.BodyData. */
-  private static BodyData createAvgBodyData(
+  static BodyData createAvgBodyData(
       LocalDate date,
       double weightSum,
       double weightCount,
@@ -31,7 +31,7 @@ public class WeightCalcs {
   }
 
   /** Calculates the rolling average of the data for the requested sliding window. */
-  static ArrayList<BodyData> rollingAvg(int window, ArrayList<BodyData> data) {
+  static ArrayList<BodyData> rollingAvg(int window, List<BodyData> data) {
     ArrayList<BodyData> means = new ArrayList<>();
 
     int maxIndex = data.size() - 1;
@@ -103,7 +103,7 @@ public class WeightCalcs {
 
   /** Underlying iteration and calculation for bandpass. */
   private static BandPassResult bandpass(
-      BandPassCriteria criteria, LocalDate startDate, LocalDate endDate, ArrayList<BodyData> data) {
+      BandPassCriteria criteria, LocalDate startDate, LocalDate endDate, List<BodyData> data) {
 
     Timeframe timeframe = getTimeframe(startDate, endDate, data);
 
@@ -146,7 +146,7 @@ public class WeightCalcs {
       double bound,
       LocalDate startDate,
       LocalDate endDate,
-      ArrayList<BodyData> data) {
+      List<BodyData> data) {
 
     class WeightBandPass implements BandPassCriteria {
       double upperBound = (1 + bound) * weight;
@@ -173,7 +173,7 @@ public class WeightCalcs {
       double bound,
       LocalDate startDate,
       LocalDate endDate,
-      ArrayList<BodyData> data) {
+      List<BodyData> data) {
 
     class BodyFatBandPass implements BandPassCriteria {
       double upperBound = (1 + bound) * bodyFat;
@@ -190,7 +190,7 @@ public class WeightCalcs {
     return bandpass(new BodyFatBandPass(), startDate, endDate, data);
   }
 
-  static TimeFrameReport reportForMonth(int month, int year, ArrayList<BodyData> data) {
+  static TimeFrameReport reportForMonth(int month, int year, List<BodyData> data) {
     LocalDate monthStart = LocalDate.of(year, month, 1);
     LocalDate monthEnd = LocalDate.of(year, month, monthStart.lengthOfMonth());
 
@@ -198,7 +198,7 @@ public class WeightCalcs {
   }
 
   static TimeFrameReport reportForTimeFrame(
-      LocalDate startDate, LocalDate endDate, ArrayList<BodyData> data) {
+      LocalDate startDate, LocalDate endDate, List<BodyData> data) {
     Timeframe timeframe = getTimeframe(startDate, endDate, data);
 
     AtomicReference<Double> minWeight = new AtomicReference<>(Double.MAX_VALUE);
@@ -239,12 +239,12 @@ public class WeightCalcs {
    * the date is not exactly captured by the set, the closest date that does not exceed the target
    * date will be used.
    *
-   * <p>Returned list is backed by arraylist.
+   * <p>Returned list is a view backed by the given list.
    *
    * <p>visible for testing
    */
   protected static Timeframe getTimeframe(
-      LocalDate startDate, LocalDate endDate, ArrayList<BodyData> data) {
+      LocalDate startDate, LocalDate endDate, List<BodyData> data) {
     int earliestDateIndex = data.size() - 1;
     int latestDateIndex = 0;
 
@@ -276,7 +276,7 @@ public class WeightCalcs {
   }
 
   /**
-   * Recursive helper. Retrieves the index within the arraylist that represents the requested date
+   * Recursive helper. Retrieves the index within the list that represents the requested date
    * Assumes that the target date is captured within the bounds of the dataset.
    *
    * <p>If doNotExceed is true and the target date is not in the data set, this will select the date
@@ -288,7 +288,7 @@ public class WeightCalcs {
       int endWindow,
       LocalDate date,
       boolean doNotExceed,
-      ArrayList<BodyData> data) {
+      List<BodyData> data) {
 
     int midpoint = (startWindow + endWindow) / 2;
     LocalDate midpointDate = data.get(midpoint).getDate();
@@ -0,0 +1,66 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/** Shared body data and comparisons for tests of the alternative stores and calculations. */
+class BodyDataFixtures {
+  static final double DELTA = 0.0001;
+
+  static final BodyData AUG_26 =
+      new BodyData(
+          LocalDate.of(2020, 8, 26), 145.3, OptionalDouble.of(31.2), OptionalDouble.of(50.8));
+  static final BodyData AUG_27 =
+      new BodyData(
+          LocalDate.of(2020, 8, 27), 144.8, OptionalDouble.of(31.1), OptionalDouble.of(50.6));
+  static final BodyData AUG_28 =
+      new BodyData(
+          LocalDate.of(2020, 8, 28), 145.8, OptionalDouble.of(31.4), OptionalDouble.of(50.8));
+  static final BodyData AUG_30 =
+      new BodyData(
+          LocalDate.of(2020, 8, 30), 146.3, OptionalDouble.of(31.5), OptionalDouble.of(51.0));
+  static final BodyData AUG_31 =
+      new BodyData(
+          LocalDate.of(2020, 8, 31), 145.7, OptionalDouble.empty(), OptionalDouble.empty());
+  static final BodyData SEP_1 =
+      new BodyData(
+          LocalDate.of(2020, 9, 1), 144.9, OptionalDouble.of(31.2), OptionalDouble.of(50.6));
+  static final BodyData SEP_2 =
+      new BodyData(
+          LocalDate.of(2020, 9, 2), 144.5, OptionalDouble.of(31.1), OptionalDouble.of(50.6));
+  static final BodyData SEP_4 =
+      new BodyData(
+          LocalDate.of(2020, 9, 4), 144.5, OptionalDouble.of(31.1), OptionalDouble.of(50.5));
+
+  /**
+   * WeightWeek: Aug 26 - Sep 4, latest first
+   *
+   * <p>no data for Aug 29 or Sep 3, empty optionals for Aug 31
+   */
+  static ArrayList<BodyData> weekData() {
+    return new ArrayList<>(
+        Arrays.asList(SEP_4, SEP_2, SEP_1, AUG_31, AUG_30, AUG_28, AUG_27, AUG_26));
+  }
+
+  /** Asserts the series match entry by entry, including which optional values are missing. */
+  static void assertSameSeries(List<BodyData> expected, List<BodyData> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) assertSameData(expected.get(i), actual.get(i), DELTA);
+  }
+
+  static void assertSameData(BodyData expected, BodyData actual, double delta) {
+    assertEquals(expected.getDate(), actual.getDate());
+    assertEquals(expected.getWeight(), actual.getWeight(), delta);
+    assertSameOptional(expected.getBodyFat(), actual.getBodyFat(), delta);
+    assertSameOptional(expected.getMuscleMass(), actual.getMuscleMass(), delta);
+  }
+
+  private static void assertSameOptional(
+      OptionalDouble expected, OptionalDouble actual, double delta) {
+    assertEquals(expected.isPresent(), actual.isPresent());
+    if (expected.isPresent()) assertEquals(expected.getAsDouble(), actual.getAsDouble(), delta);
+  }
+}
@@ -0,0 +1,143 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class CohortStatsTest {
+  Double assertDoubleDelta = 0.0001;
+
+  YearMonth july = YearMonth.of(2020, 7);
+
+  /** Builds a user's history, latest date first, of one reading a day through July 2020. */
+  private ArrayList<BodyData> user(double startWeight, double dailyChange) {
+    ArrayList<BodyData> data = new ArrayList<>();
+    for (int day = 31; day >= 1; day--) {
+      data.add(
+          new BodyData(
+              LocalDate.of(2020, 7, day),
+              startWeight + day * dailyChange,
+              OptionalDouble.empty(),
+              OptionalDouble.empty()));
+    }
+    data.add(
+        new BodyData(
+            LocalDate.of(2020, 6, 30),
+            startWeight,
+            OptionalDouble.empty(),
+            OptionalDouble.empty()));
+    return data;
+  }
+
+  @Test
+  public void summarizeByMonthMatchesReport() {
+    ArrayList<BodyData> data = user(150.0, -0.1);
+    TreeMap<YearMonth, CohortStats.MonthlySummary> summaries = CohortStats.summarizeByMonth(data);
+
+    assertEquals(2, summaries.size());
+    CohortStats.MonthlySummary summary = summaries.get(july);
+    TimeFrameReport report = WeightCalcs.reportForMonth(7, 2020, data);
+
+    assertEquals(31, summary.count);
+    assertEquals(report.min, summary.min, assertDoubleDelta);
+    assertEquals(report.max, summary.max, assertDoubleDelta);
+    assertEquals(report.avg, summary.average(), assertDoubleDelta);
+  }
+
+  @Test
+  public void timeInBandMatchesBandpass() {
+    ArrayList<BodyData> data = user(145.0, 0.05);
+    List<TreeMap<YearMonth, CohortStats.MonthlySummary>> users =
+        Collections.singletonList(CohortStats.summarizeByMonth(data));
+
+    KllSketch distribution = CohortStats.timeInBandDistribution(users, july, 145.5, .005);
+    WeightCalcs.BandPassResult result =
+        WeightCalcs.bandpassWeight(
+            145.5, .005, LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 31), data);
+
+    assertEquals(1, distribution.getCount());
+    assertEquals(result.percent, distribution.quantile(0.5), assertDoubleDelta);
+  }
+
+  @Test
+  public void combineIsOrderIndependent() {
+    List<CohortStats.MonthlySummary> summaries = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      summaries.add(CohortStats.summarizeByMonth(user(140 + i * 0.3, 0.1)).get(july));
+    }
+
+    CohortStats.MonthlySummary forward = CohortStats.combine(summaries).orElseThrow();
+    Collections.reverse(summaries);
+    CohortStats.MonthlySummary reverse = CohortStats.combine(summaries).orElseThrow();
+
+    assertEquals(50 * 31, forward.count);
+    assertEquals(forward.count, reverse.count);
+    assertEquals(forward.weightTenthsSum, reverse.weightTenthsSum);
+    assertEquals(forward.average(), reverse.average(), 0.0);
+    assertEquals(forward.min, reverse.min, 0.0);
+    assertEquals(forward.max, reverse.max, 0.0);
+    assertEquals(july, forward.month);
+  }
+
+  @Test
+  public void averageIsCorrectlyRounded() {
+    List<BodyData> data =
+        Arrays.asList(BodyDataFixtures.AUG_28, BodyDataFixtures.AUG_27, BodyDataFixtures.AUG_26);
+
+    CohortStats.MonthlySummary summary =
+        CohortStats.summarizeByMonth(data).get(YearMonth.of(2020, 8));
+
+    assertEquals(145.3, summary.average(), 0.0);
+  }
+
+  @Test
+  public void monthlyAveragePercentile() {
+    List<TreeMap<YearMonth, CohortStats.MonthlySummary>> users = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) users.add(CohortStats.summarizeByMonth(user(120 + i * 0.1, 0)));
+
+    KllSketch distribution = CohortStats.monthlyAverageDistribution(users, july);
+
+    assertEquals(1000, distribution.getCount());
+    assertEquals(0.5, distribution.rank(170.0), 0.02);
+    assertEquals(190.0, distribution.quantile(0.7), 1.0);
+  }
+
+  @Test
+  public void sketchRankError() {
+    Random random = new Random(42);
+    KllSketch first = new KllSketch();
+    KllSketch second = new KllSketch();
+    for (int i = 0; i < 100_000; i++) {
+      double value = random.nextDouble();
+      if (i % 2 == 0) first.update(value);
+      else second.update(value);
+    }
+    first.merge(second);
+
+    assertEquals(100_000, first.getCount());
+    for (double q = 0.1; q < 1.0; q += 0.1) {
+      assertEquals(q, first.rank(q), 0.02);
+      assertEquals(q, first.quantile(q), 0.02);
+    }
+  }
+
+  @Test
+  public void sketchMergedWithItself() {
+    KllSketch sketch = new KllSketch();
+    for (int i = 1; i <= 10; i++) sketch.update(i);
+
+    sketch.merge(sketch);
+
+    assertEquals(20, sketch.getCount());
+    assertEquals(1.0, sketch.getMin(), 0.0);
+    assertEquals(10.0, sketch.getMax(), 0.0);
+    assertEquals(0.5, sketch.rank(5.0), 0.0);
+  }
+}
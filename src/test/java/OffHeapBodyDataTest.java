@@ -0,0 +1,91 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+public class OffHeapBodyDataTest {
+  Double assertDoubleDelta = 0.0001;
+
+  ArrayList<BodyData> data = BodyDataFixtures.weekData();
+
+  @Test
+  public void allocatedRoundTrip() {
+    try (OffHeapBodyData offHeap = OffHeapBodyData.allocate(data)) {
+      assertEquals(8, offHeap.size());
+      for (int i = 0; i < data.size(); i++) {
+        BodyDataFixtures.assertSameData(data.get(i), offHeap.get(i), 0.0);
+      }
+    }
+  }
+
+  @Test
+  public void mappedRoundTrip() throws IOException {
+    Path file = Files.createTempFile("bodydata", ".bin");
+    try {
+      OffHeapBodyData.write(file, data);
+      try (OffHeapBodyData offHeap = OffHeapBodyData.map(file)) {
+        assertEquals(8, offHeap.size());
+        for (int i = 0; i < data.size(); i++) {
+          BodyDataFixtures.assertSameData(data.get(i), offHeap.get(i), 0.0);
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void reportMatchesHeapData() {
+    LocalDate startDate = LocalDate.of(2020, 8, 31);
+    LocalDate endDate = LocalDate.of(2020, 9, 2);
+
+    try (OffHeapBodyData offHeap = OffHeapBodyData.allocate(data)) {
+      TimeFrameReport expected = WeightCalcs.reportForTimeFrame(startDate, endDate, data);
+      TimeFrameReport actual = WeightCalcs.reportForTimeFrame(startDate, endDate, offHeap);
+
+      assertEquals(expected.startDate, actual.startDate);
+      assertEquals(expected.endDate, actual.endDate);
+      assertEquals(expected.min, actual.min, assertDoubleDelta);
+      assertEquals(expected.max, actual.max, assertDoubleDelta);
+      assertEquals(expected.avg, actual.avg, assertDoubleDelta);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void accessAfterClose() {
+    OffHeapBodyData offHeap = OffHeapBodyData.allocate(data);
+    offHeap.close();
+    offHeap.get(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void truncatedFileRejected() throws IOException {
+    Path file = Files.createTempFile("bodydata", ".bin");
+    try {
+      OffHeapBodyData.write(file, data);
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.truncate(channel.size() - Double.BYTES);
+      }
+      OffHeapBodyData.map(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void fileShorterThanHeaderRejected() throws IOException {
+    Path file = Files.createTempFile("bodydata", ".bin");
+    try {
+      Files.write(file, new byte[] {0x47, 0x44});
+      OffHeapBodyData.map(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
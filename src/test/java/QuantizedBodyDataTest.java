@@ -0,0 +1,92 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.OptionalDouble;
+
+public class QuantizedBodyDataTest {
+  Double assertDoubleDelta = 0.0001;
+
+  ArrayList<BodyData> weekData = BodyDataFixtures.weekData();
+
+  QuantizedBodyData quantized = QuantizedBodyData.of(weekData);
+
+  @Test
+  public void quantizedRoundTrip() {
+    assertEquals(8, quantized.size());
+
+    BodyData bodyData = quantized.get(3);
+    assertEquals(BodyDataFixtures.AUG_31.getDate(), bodyData.getDate());
+    assertEquals(145.7, bodyData.getWeight(), 0.0);
+    assertTrue(bodyData.getBodyFat().isEmpty());
+    assertTrue(bodyData.getMuscleMass().isEmpty());
+    assertEquals(31.5, quantized.get(4).getBodyFat().orElseThrow(), 0.0);
+  }
+
+  @Test
+  public void rollingAvgMatchesWeightCalcs() {
+    ArrayList<BodyData> expected = WeightCalcs.rollingAvg(3, weekData);
+    ArrayList<BodyData> actual = quantized.rollingAvg(3);
+
+    BodyDataFixtures.assertSameSeries(expected, actual);
+  }
+
+  @Test
+  public void reportMatchesWeightCalcs() {
+    LocalDate startDate = LocalDate.of(2020, 8, 29);
+    LocalDate endDate = LocalDate.of(2020, 9, 3);
+
+    TimeFrameReport expected = WeightCalcs.reportForTimeFrame(startDate, endDate, weekData);
+    TimeFrameReport actual = quantized.reportForTimeFrame(startDate, endDate);
+
+    assertEquals(expected.startDate, actual.startDate);
+    assertEquals(expected.endDate, actual.endDate);
+    assertEquals(expected.min, actual.min, 0.0);
+    assertEquals(expected.max, actual.max, 0.0);
+    assertEquals(expected.avg, actual.avg, assertDoubleDelta);
+  }
+
+  @Test
+  public void reportForGapMatchesWeightCalcs() {
+    LocalDate gap = LocalDate.of(2020, 8, 29);
+
+    TimeFrameReport expected = WeightCalcs.reportForTimeFrame(gap, gap, weekData);
+    TimeFrameReport actual = quantized.reportForTimeFrame(gap, gap);
+
+    assertEquals(expected.startDate, actual.startDate);
+    assertEquals(expected.endDate, actual.endDate);
+    assertTrue(Double.isNaN(actual.avg));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rollingAvgRejectsEmptyWindow() {
+    quantized.rollingAvg(0);
+  }
+
+  @Test
+  public void averageIsExact() {
+    // summing these as doubles averages to 145.09999999999997
+    ArrayList<BodyData> data = new ArrayList<>();
+    LocalDate date = LocalDate.of(2020, 9, 10);
+    for (int i = 0; i < 10; i++) {
+      data.add(
+          new BodyData(date.minusDays(i), 145.1, OptionalDouble.empty(), OptionalDouble.empty()));
+    }
+
+    TimeFrameReport report =
+        QuantizedBodyData.of(data).reportForTimeFrame(date.minusDays(9), date);
+
+    assertEquals(145.1, report.avg, 0.0);
+  }
+
+  @Test
+  public void averageIsCorrectlyRounded() {
+    // 4359 tenths over 3 entries, dividing by 10 then by 3 gives 145.29999999999998
+    LocalDate startDate = LocalDate.of(2020, 8, 26);
+    LocalDate endDate = LocalDate.of(2020, 8, 28);
+
+    assertEquals(145.3, quantized.reportForTimeFrame(startDate, endDate).avg, 0.0);
+    assertEquals(145.3, quantized.rollingAvg(3).get(5).getWeight(), 0.0);
+  }
+}
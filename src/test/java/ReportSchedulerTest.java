@@ -0,0 +1,110 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReportSchedulerTest {
+
+  ArrayList<BodyData> weekData = BodyDataFixtures.weekData();
+  ArrayList<BodyData> yearData = new ArrayList<>(weekData.subList(0, 1));
+
+  @Test
+  public void outputInDeclaredOrder() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<String> results =
+          new ReportScheduler()
+              .dataset("week", () -> weekData)
+              .dataset("year", () -> yearData)
+              .report("week", data -> "week " + data.size())
+              .report("year", data -> "year " + data.size())
+              .report(
+                  Arrays.asList("week", "year"),
+                  data -> "both " + (data.get("week").size() + data.get("year").size()))
+              .run(executor);
+
+      assertEquals(Arrays.asList("week 8", "year 1", "both 9"), results);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void datasetsLoadedOnceAndConcurrently() {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch bothLoading = new CountDownLatch(2);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<String> results =
+          new ReportScheduler()
+              .dataset(
+                  "week",
+                  () -> {
+                    loads.incrementAndGet();
+                    bothLoading.countDown();
+                    // only completes if the other dataset is loading at the same time
+                    assertTrue(bothLoading.await(10, TimeUnit.SECONDS));
+                    return weekData;
+                  })
+              .dataset(
+                  "year",
+                  () -> {
+                    loads.incrementAndGet();
+                    bothLoading.countDown();
+                    assertTrue(bothLoading.await(10, TimeUnit.SECONDS));
+                    return yearData;
+                  })
+              .report("week", data -> "a")
+              .report("week", data -> "b")
+              .report("year", data -> "c")
+              .run(executor);
+
+      assertEquals(Arrays.asList("a", "b", "c"), results);
+      assertEquals(2, loads.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void userReportsOverScheduledData() {
+    LocalDate startDate = LocalDate.of(2020, 9, 1);
+    LocalDate endDate = LocalDate.of(2020, 9, 2);
+
+    List<String> results =
+        new ReportScheduler()
+            .dataset("week", () -> weekData)
+            .report("week", data -> UserReports.timeframeReport(startDate, endDate, data))
+            .run();
+
+    assertEquals(
+        Arrays.asList(UserReports.timeframeReport(startDate, endDate, weekData)), results);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failedLoadPropagates() {
+    new ReportScheduler()
+        .dataset(
+            "week",
+            () -> {
+              throw new IOException("missing file");
+            })
+        .report("week", data -> "never")
+        .run();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void undeclaredDataset() {
+    new ReportScheduler().report("week", data -> "never");
+  }
+}
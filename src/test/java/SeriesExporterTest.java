@@ -0,0 +1,171 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.OptionalDouble;
+
+public class SeriesExporterTest {
+
+  // aug 31 with a weight that needs rounding
+  BodyData halfCentAug31 =
+      new BodyData(
+          LocalDate.of(2020, 8, 31), 145.675, OptionalDouble.empty(), OptionalDouble.empty());
+
+  ArrayList<BodyData> series =
+      new ArrayList<>(Arrays.asList(BodyDataFixtures.SEP_2, halfCentAug31));
+
+  private String export(SeriesExporter.Format format, ExportAction action) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    action.export(new SeriesExporter(format, Channels.newChannel(out)));
+    return out.toString(StandardCharsets.US_ASCII);
+  }
+
+  interface ExportAction {
+    void export(SeriesExporter exporter) throws IOException;
+  }
+
+  @Test
+  public void seriesAsCsv() throws IOException {
+    String csv = export(SeriesExporter.Format.CSV, exporter -> exporter.writeSeries(series));
+
+    assertEquals(
+        "date,weight,bodyFat,muscleMass\n2020-09-02,144.50,31.1,50.60\n2020-08-31,145.68,,\n", csv);
+  }
+
+  @Test
+  public void seriesAsJson() throws IOException {
+    String json = export(SeriesExporter.Format.JSON, exporter -> exporter.writeSeries(series));
+
+    assertEquals(
+        "[\n{\"date\":\"2020-09-02\",\"weight\":144.50,\"bodyFat\":31.1,\"muscleMass\":50.60},"
+            + "\n{\"date\":\"2020-08-31\",\"weight\":145.68,\"bodyFat\":null,\"muscleMass\":null}"
+            + "\n]\n",
+        json);
+  }
+
+  @Test
+  public void reportsAsCsv() throws IOException {
+    TimeFrameReport report =
+        new TimeFrameReport(
+            LocalDate.of(2020, 8, 30), LocalDate.of(2020, 9, 2), 144.5, 146.3, 145.35);
+    String csv =
+        export(
+            SeriesExporter.Format.CSV,
+            exporter -> exporter.writeReports(Collections.singletonList(report)));
+
+    assertEquals(
+        "startDate,endDate,min,max,avg\n2020-08-30,2020-09-02,144.50,146.30,"
+            + String.format("%.2f", 145.35)
+            + "\n",
+        csv);
+  }
+
+  @Test
+  public void emptyReportAsJson() throws IOException {
+    TimeFrameReport report =
+        WeightCalcs.reportForTimeFrame(
+            LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 31), BodyDataFixtures.weekData());
+    String json =
+        export(
+            SeriesExporter.Format.JSON,
+            exporter -> exporter.writeReports(Collections.singletonList(report)));
+
+    assertEquals(
+        "[\n{\"startDate\":\"2020-08-26\",\"endDate\":\"2020-08-26\","
+            + "\"min\":null,\"max\":null,\"avg\":null}\n]\n",
+        json);
+  }
+
+  @Test
+  public void outOfRangeValueAsCsv() throws IOException {
+    TimeFrameReport report =
+        new TimeFrameReport(
+            LocalDate.of(2020, 8, 30), LocalDate.of(2020, 9, 2), 144.5, 1e300, 145.0);
+    String csv =
+        export(
+            SeriesExporter.Format.CSV,
+            exporter -> exporter.writeReports(Collections.singletonList(report)));
+
+    assertEquals("startDate,endDate,min,max,avg\n2020-08-30,2020-09-02,144.50,,145.00\n", csv);
+  }
+
+  @Test
+  public void decimalTiesMatchPrettyPrint() throws IOException {
+    // averages of four tenths land on .x25 and .x75, which are stored just off the tie
+    ArrayList<BodyData> series = new ArrayList<>();
+    LocalDate date = LocalDate.of(2020, 1, 1);
+    series.add(
+        new BodyData(date, 1.005, OptionalDouble.of(31.05), OptionalDouble.of(150.825)));
+    for (int i = 1; i < 2000; i++) {
+      double tenths = 1400 + i * 0.25;
+      series.add(
+          new BodyData(
+              date.minusDays(i),
+              tenths / 10.0,
+              OptionalDouble.of(tenths / 50.0),
+              OptionalDouble.of(tenths / 20.0)));
+    }
+
+    String csv = export(SeriesExporter.Format.CSV, exporter -> exporter.writeSeries(series));
+    String[] lines = csv.split("\n");
+
+    assertEquals("2020-01-01,1.01,31.1,150.83", lines[1]);
+    for (int i = 0; i < series.size(); i++) {
+      BodyData bodyData = series.get(i);
+      String expected =
+          String.format(
+              "%s,%.2f,%.1f,%.2f",
+              bodyData.getDate(),
+              bodyData.getWeight(),
+              bodyData.getBodyFat().orElseThrow(),
+              bodyData.getMuscleMass().orElseThrow());
+      assertEquals(expected, lines[i + 1]);
+    }
+  }
+
+  @Test
+  public void emptyBandPassResultAsJson() throws IOException {
+    WeightCalcs.BandPassResult result =
+        new WeightCalcs.BandPassResult(
+            LocalDate.of(2020, 8, 1), LocalDate.of(2020, 8, 1), Double.NaN);
+    String json =
+        export(
+            SeriesExporter.Format.JSON,
+            exporter -> exporter.writeBandPassResults(Collections.singletonList(result)));
+
+    assertEquals(
+        "[\n{\"startDate\":\"2020-08-01\",\"endDate\":\"2020-08-01\",\"percent\":null}\n]\n", json);
+  }
+
+  @Test
+  public void longSeriesSpansBufferFlushes() throws IOException {
+    ArrayList<BodyData> longSeries = new ArrayList<>();
+    LocalDate date = LocalDate.of(2020, 1, 1);
+    for (int i = 0; i < 5000; i++) {
+      longSeries.add(
+          new BodyData(
+              date.minusDays(i),
+              140.0 + i / 100.0,
+              OptionalDouble.of(30.0),
+              OptionalDouble.empty()));
+    }
+
+    String csv = export(SeriesExporter.Format.CSV, exporter -> exporter.writeSeries(longSeries));
+    String[] lines = csv.split("\n");
+
+    assertEquals(5001, lines.length);
+    for (int i = 0; i < longSeries.size(); i++) {
+      BodyData bodyData = longSeries.get(i);
+      String expected =
+          String.format("%s,%.2f,%.1f,", bodyData.getDate(), bodyData.getWeight(), 30.0);
+      assertEquals(expected, lines[i + 1]);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+public class SmoothingPipelineTest {
+  Double assertDoubleDelta = 0.0001;
+
+  ArrayList<BodyData> weekData = BodyDataFixtures.weekData();
+
+  @Test
+  public void simpleAveragesMatchRollingAvg() {
+    LinkedHashMap<String, ArrayList<BodyData>> smoothed =
+        new SmoothingPipeline()
+            .simpleAverage("1", 1)
+            .simpleAverage("3", 3)
+            .simpleAverage("7", 7)
+            .run(weekData);
+
+    assertEquals(Arrays.asList("1", "3", "7"), new ArrayList<>(smoothed.keySet()));
+    for (int window : new int[] {1, 3, 7}) {
+      ArrayList<BodyData> expected = WeightCalcs.rollingAvg(window, weekData);
+      ArrayList<BodyData> actual = smoothed.get(String.valueOf(window));
+
+      BodyDataFixtures.assertSameSeries(expected, actual);
+    }
+  }
+
+  @Test
+  public void hackersDietTrendDecaysAcrossGaps() {
+    ArrayList<BodyData> trend =
+        new SmoothingPipeline().hackersDietTrend("trend").run(weekData).get("trend");
+
+    // first entry seeds the trend
+    assertEquals(BodyDataFixtures.AUG_26.getWeight(), trend.get(7).getWeight(), assertDoubleDelta);
+
+    double rolledAug27 = 145.3 + 0.1 * (144.8 - 145.3);
+    assertEquals(rolledAug27, trend.get(6).getWeight(), assertDoubleDelta);
+
+    double rolledAug28 = rolledAug27 + 0.1 * (145.8 - rolledAug27);
+    assertEquals(rolledAug28, trend.get(5).getWeight(), assertDoubleDelta);
+
+    // two days since aug 28, so 0.9^2 of the previous trend is retained
+    double rolledAug30 = rolledAug28 + (1 - 0.81) * (146.3 - rolledAug28);
+    assertEquals(rolledAug30, trend.get(4).getWeight(), assertDoubleDelta);
+  }
+
+  @Test
+  public void exponentialCarriesMissingValuesForward() {
+    ArrayList<BodyData> ema =
+        new SmoothingPipeline().exponential("ema", 0.5).run(weekData).get("ema");
+
+    BodyData smoothedAug30 = ema.get(4);
+    BodyData smoothedAug31 = ema.get(3);
+    assertEquals(
+        smoothedAug30.getBodyFat().orElseThrow(),
+        smoothedAug31.getBodyFat().orElseThrow(),
+        assertDoubleDelta);
+
+    // body fat last recorded aug 30, so sep 1 decays over two days
+    double expectedSep1 =
+        smoothedAug30.getBodyFat().orElseThrow()
+            + (1 - 0.25) * (31.2 - smoothedAug30.getBodyFat().orElseThrow());
+    assertEquals(expectedSep1, ema.get(2).getBodyFat().orElseThrow(), assertDoubleDelta);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void duplicateOutputName() {
+    new SmoothingPipeline().simpleAverage("avg", 3).hackersDietTrend("avg");
+  }
+}
@@ -0,0 +1,119 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+
+public class TrendCalcsTest {
+  Double assertDoubleDelta = 0.0001;
+
+  LocalDate start = LocalDate.of(2020, 6, 1);
+
+  /** Builds a dataset, latest date first, with one entry per day from start. */
+  private ArrayList<BodyData> series(double[] weights) {
+    ArrayList<BodyData> data = new ArrayList<>();
+    for (int i = weights.length - 1; i >= 0; i--) {
+      OptionalDouble bodyFat =
+          i % 3 == 0 ? OptionalDouble.empty() : OptionalDouble.of(31.0 - i * 0.1);
+      data.add(new BodyData(start.plusDays(i), weights[i], bodyFat, OptionalDouble.empty()));
+    }
+    return data;
+  }
+
+  @Test
+  public void exactLinearTrend() {
+    double[] weights = new double[30];
+    for (int i = 0; i < weights.length; i++) weights[i] = 150.0 - i * 0.2;
+    TrendCalcs trends = new TrendCalcs(series(weights));
+
+    TrendCalcs.TrendResult result =
+        trends.trend(TrendCalcs.Metric.WEIGHT, start.plusDays(5), start.plusDays(20)).orElseThrow();
+
+    assertEquals(start.plusDays(5), result.startDate);
+    assertEquals(start.plusDays(20), result.endDate);
+    assertEquals(16, result.count);
+    assertEquals(-1.4, result.slopePerWeek, assertDoubleDelta);
+    assertEquals(1.0, result.rSquared, assertDoubleDelta);
+    assertEquals(0.0, result.residualDeviation, assertDoubleDelta);
+    assertEquals(149.0, result.valueAt(start.plusDays(5)), assertDoubleDelta);
+  }
+
+  @Test
+  public void matchesDirectRegression() {
+    double[] weights = new double[60];
+    for (int i = 0; i < weights.length; i++) weights[i] = 148.0 + Math.sin(i) - i * 0.05;
+    ArrayList<BodyData> data = series(weights);
+    TrendCalcs trends = new TrendCalcs(data);
+
+    LocalDate startDate = start.plusDays(10);
+    LocalDate endDate = start.plusDays(45);
+    List<BodyData> range = WeightCalcs.getTimeframe(startDate, endDate, data).data;
+
+    double n = range.size();
+    double sx = 0, sy = 0, sxx = 0, sxy = 0, syy = 0;
+    for (BodyData bodyData : range) {
+      double x = bodyData.getDate().toEpochDay();
+      double y = bodyData.getWeight();
+      sx += x;
+      sy += y;
+      sxx += x * x;
+      sxy += x * y;
+      syy += y * y;
+    }
+    double slope = (n * sxy - sx * sy) / (n * sxx - sx * sx);
+    double r = (n * sxy - sx * sy) / Math.sqrt((n * sxx - sx * sx) * (n * syy - sy * sy));
+
+    TrendCalcs.TrendResult result =
+        trends.trend(TrendCalcs.Metric.WEIGHT, startDate, endDate).orElseThrow();
+
+    assertEquals(range.size(), result.count);
+    assertEquals(slope * 7, result.slopePerWeek, assertDoubleDelta);
+    assertEquals(r * r, result.rSquared, assertDoubleDelta);
+    assertEquals(sy / n, result.mean, assertDoubleDelta);
+  }
+
+  @Test
+  public void missingValuesSkipped() {
+    double[] weights = new double[12];
+    for (int i = 0; i < weights.length; i++) weights[i] = 150.0;
+    TrendCalcs trends = new TrendCalcs(series(weights));
+
+    TrendCalcs.TrendResult result =
+        trends.trend(TrendCalcs.Metric.BODY_FAT, start, start.plusDays(11)).orElseThrow();
+
+    assertEquals(8, result.count);
+    assertEquals(-0.7, result.slopePerWeek, assertDoubleDelta);
+    assertTrue(trends.trend(TrendCalcs.Metric.MUSCLE_MASS, start, start.plusDays(11)).isEmpty());
+  }
+
+  @Test
+  public void changePointBetweenLossAndGain() {
+    double[] weights = new double[40];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = i < 25 ? 150.0 - i * 0.3 : 142.8 + (i - 24) * 0.2;
+    }
+    TrendCalcs trends = new TrendCalcs(series(weights));
+
+    TrendCalcs.ChangePoint changePoint =
+        trends
+            .changePoint(TrendCalcs.Metric.WEIGHT, start, start.plusDays(39))
+            .orElseThrow();
+
+    assertEquals(start.plusDays(25), changePoint.changeDate);
+    assertEquals(-2.1, changePoint.before.slopePerWeek, assertDoubleDelta);
+    assertEquals(1.4, changePoint.after.slopePerWeek, assertDoubleDelta);
+    assertEquals(start.plusDays(24), changePoint.before.endDate);
+  }
+
+  @Test
+  public void rangeOutsideData() {
+    TrendCalcs trends = new TrendCalcs(series(new double[] {150.0, 149.0, 148.0}));
+
+    assertTrue(
+        trends
+            .trend(TrendCalcs.Metric.WEIGHT, start.minusDays(10), start.minusDays(5))
+            .isEmpty());
+  }
+}
@@ -0,0 +1,66 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class UserReportsTest {
+
+  ArrayList<BodyData> data =
+      new ArrayList<>(Arrays.asList(BodyDataFixtures.SEP_1, BodyDataFixtures.AUG_31));
+
+  @Test
+  public void rollingAvgExportWritesFile() throws IOException {
+    Path file = Files.createTempFile("rolled", ".csv");
+    try {
+      Files.write(file, "stale contents that are longer than the export".repeat(10).getBytes());
+      UserReports.rollingAvgExport(2, data, SeriesExporter.Format.CSV, file);
+
+      assertEquals(
+          "date,weight,bodyFat,muscleMass\n2020-09-01,145.30,31.2,50.60\n2020-08-31,145.70,,\n",
+          new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void rollingAvgExportFailureThrows() throws IOException {
+    Path directory = Files.createTempDirectory("rolled");
+    try {
+      UserReports.rollingAvgExport(
+          2, data, SeriesExporter.Format.CSV, directory.resolve("missing").resolve("rolled.csv"));
+    } finally {
+      Files.delete(directory);
+    }
+  }
+
+  @Test
+  public void trendReport() {
+    LocalDate startDate = LocalDate.of(2020, 8, 26);
+    LocalDate endDate = LocalDate.of(2020, 9, 4);
+    TrendCalcs trends = new TrendCalcs(BodyDataFixtures.weekData());
+    TrendCalcs.TrendResult trend =
+        trends.trend(TrendCalcs.Metric.WEIGHT, startDate, endDate).orElseThrow();
+
+    assertEquals(
+        "Trend of weight for 2020-08-26 to 2020-09-04: " + trend,
+        UserReports.trendReport(trends, TrendCalcs.Metric.WEIGHT, startDate, endDate));
+  }
+
+  @Test
+  public void trendReportWithoutData() {
+    LocalDate startDate = LocalDate.of(2020, 7, 1);
+    LocalDate endDate = LocalDate.of(2020, 7, 31);
+    TrendCalcs trends = new TrendCalcs(BodyDataFixtures.weekData());
+
+    assertEquals(
+        "Trend of body fat for 2020-07-01 to 2020-07-31: N/A",
+        UserReports.trendReport(trends, TrendCalcs.Metric.BODY_FAT, startDate, endDate));
+  }
+}